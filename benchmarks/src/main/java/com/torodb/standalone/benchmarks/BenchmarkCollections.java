@@ -0,0 +1,60 @@
+/*
+ * ToroDB Server
+ * Copyright © 2014 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.standalone.benchmarks;
+
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility methods used by benchmarks to prepare their collections.
+ */
+class BenchmarkCollections {
+
+  static final String DATABASE = "benchmark";
+
+  private BenchmarkCollections() {
+  }
+
+  /**
+   * Returns the collection used to store documents of the given shape, after dropping it and
+   * inserting {@code docs} documents with ids in {@code [0, docs)}.
+   */
+  static MongoCollection<Document> createAndLoad(ServerState serverState, DocumentShape shape,
+      int docs, int batchSize) {
+    MongoCollection<Document> collection = serverState.getClient()
+        .getDatabase(DATABASE)
+        .getCollection(shape.getCollectionName());
+    collection.drop();
+
+    List<Document> batch = new ArrayList<>(batchSize);
+    for (int id = 0; id < docs; id++) {
+      batch.add(shape.create(id));
+      if (batch.size() == batchSize) {
+        collection.insertMany(batch);
+        batch = new ArrayList<>(batchSize);
+      }
+    }
+    if (!batch.isEmpty()) {
+      collection.insertMany(batch);
+    }
+    return collection;
+  }
+}
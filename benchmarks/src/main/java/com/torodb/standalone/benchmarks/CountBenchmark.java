@@ -0,0 +1,77 @@
+/*
+ * ToroDB Server
+ * Copyright © 2014 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.standalone.benchmarks;
+
+import static com.mongodb.client.model.Filters.eq;
+
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code count} on collections of different sizes.
+ *
+ * <p>An unfiltered count should not depend on the size of the collection, so comparing the
+ * results for each {@link #docs} value shows whether it is answered without scanning.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CountBenchmark {
+
+  @Param({"1000", "100000"})
+  public int docs;
+
+  @Param({"1000"})
+  public int batchSize;
+
+  private MongoCollection<Document> collection;
+
+  @Setup(Level.Trial)
+  public void loadCollection(ServerState serverState) {
+    collection = BenchmarkCollections.createAndLoad(serverState, DocumentShape.FLAT, docs,
+        batchSize);
+  }
+
+  @Benchmark
+  public long count() {
+    return collection.count();
+  }
+
+  @Benchmark
+  public long filteredCount() {
+    return collection.count(eq("active", true));
+  }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * ToroDB Server
+ * Copyright © 2014 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.standalone.benchmarks;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.lt;
+import static com.mongodb.client.model.Updates.inc;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * End-to-end CRUD benchmarks executed with the MongoDB driver against a ToroDB Server.
+ *
+ * <p>Each trial starts with a freshly dropped collection that contains {@link #preloadedDocs}
+ * documents with ids in {@code [0, preloadedDocs)}. Reads, updates and upserts of existing
+ * documents only touch that range, while inserts, upserts of new documents and deletes use ids
+ * above it, so the preloaded data is stable during the trial.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CrudBenchmark {
+
+  private static final UpdateOptions UPSERT = new UpdateOptions().upsert(true);
+
+  @Param({"FLAT", "NESTED", "ARRAY", "WIDE"})
+  public DocumentShape shape;
+
+  @Param({"1000"})
+  public int preloadedDocs;
+
+  @Param({"100"})
+  public int batchSize;
+
+  @Param({"50"})
+  public int rangeSize;
+
+  private MongoCollection<Document> collection;
+  private AtomicInteger nextId;
+  private AtomicInteger nextVersion;
+
+  @Setup(Level.Trial)
+  public void loadCollection(ServerState serverState) {
+    collection = BenchmarkCollections.createAndLoad(serverState, shape, preloadedDocs, batchSize);
+    nextId = new AtomicInteger(preloadedDocs);
+    nextVersion = new AtomicInteger();
+  }
+
+  @Benchmark
+  public Document insert() {
+    Document doc = shape.create(nextId.getAndIncrement());
+    collection.insertOne(doc);
+    return doc;
+  }
+
+  @Benchmark
+  public List<Document> insertMany() {
+    List<Document> docs = new ArrayList<>(batchSize);
+    for (int i = 0; i < batchSize; i++) {
+      docs.add(shape.create(nextId.getAndIncrement()));
+    }
+    collection.insertMany(docs);
+    return docs;
+  }
+
+  @Benchmark
+  public Document findOneById() {
+    return collection.find(eq("_id", randomPreloadedId())).first();
+  }
+
+  @Benchmark
+  public List<Document> rangeFind() {
+    int from = ThreadLocalRandom.current().nextInt(Math.max(1, preloadedDocs - rangeSize));
+    return collection.find(and(gte("_id", from), lt("_id", from + rangeSize)))
+        .into(new ArrayList<>(rangeSize));
+  }
+
+  @Benchmark
+  public UpdateResult update() {
+    int id = randomPreloadedId();
+    return collection.updateOne(eq("_id", id), inc("i", 1));
+  }
+
+  @Benchmark
+  public UpdateResult upsertExisting() {
+    int id = randomPreloadedId();
+    return collection.replaceOne(eq("_id", id), createVersionedDocument(id), UPSERT);
+  }
+
+  @Benchmark
+  public UpdateResult upsertNew() {
+    int id = nextId.getAndIncrement();
+    return collection.replaceOne(eq("_id", id), createVersionedDocument(id), UPSERT);
+  }
+
+  @Benchmark
+  public DeleteResult delete(PendingDelete pendingDelete) {
+    return collection.deleteOne(eq("_id", pendingDelete.id));
+  }
+
+  /**
+   * Creates a document of the benchmarked shape with a version field that changes on each call, so
+   * replacing an existing document always modifies it.
+   */
+  private Document createVersionedDocument(int id) {
+    return shape.create(id).append("version", nextVersion.getAndIncrement());
+  }
+
+  private int randomPreloadedId() {
+    return ThreadLocalRandom.current().nextInt(preloadedDocs);
+  }
+
+  /**
+   * Inserts, before each invocation, the document the {@link #delete(PendingDelete)} benchmark
+   * will remove.
+   */
+  @State(Scope.Thread)
+  public static class PendingDelete {
+
+    int id;
+
+    @Setup(Level.Invocation)
+    public void insertDocument(CrudBenchmark benchmark) {
+      id = benchmark.nextId.getAndIncrement();
+      benchmark.collection.insertOne(benchmark.shape.create(id));
+    }
+  }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * ToroDB Server
+ * Copyright © 2014 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.standalone.benchmarks;
+
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The document shapes used by the benchmarks.
+ *
+ * <p>Each shape maps to a different set of doc-part tables on the backend, so they exercise
+ * different amounts of translation and reassembly work for the same logical operation.
+ */
+public enum DocumentShape {
+  /**
+   * A handful of scalar fields, stored on the root doc-part table only.
+   */
+  FLAT {
+    @Override
+    public Document create(int id) {
+      return new Document("_id", id)
+          .append("i", id)
+          .append("name", "name" + id)
+          .append("active", id % 2 == 0)
+          .append("score", id * 0.5d);
+    }
+  },
+  /**
+   * Scalar fields plus two levels of nested subdocuments.
+   */
+  NESTED {
+    @Override
+    public Document create(int id) {
+      return new Document("_id", id)
+          .append("i", id)
+          .append("address", new Document("street", "street" + id)
+              .append("number", id % 100)
+              .append("geo", new Document("lat", id * 0.001d).append("lon", id * 0.002d))
+          );
+    }
+  },
+  /**
+   * Scalar fields plus an array of subdocuments, stored on a child doc-part table.
+   */
+  ARRAY {
+    @Override
+    public Document create(int id) {
+      List<Document> items = new ArrayList<>(ARRAY_LENGTH);
+      for (int j = 0; j < ARRAY_LENGTH; j++) {
+        items.add(new Document("sku", "sku" + j).append("qty", j));
+      }
+      return new Document("_id", id)
+          .append("i", id)
+          .append("items", items);
+    }
+  },
+  /**
+   * Many scalar fields on the root doc-part table.
+   */
+  WIDE {
+    @Override
+    public Document create(int id) {
+      Document doc = new Document("_id", id)
+          .append("i", id);
+      for (int j = 0; j < WIDE_FIELDS; j++) {
+        doc.append("f" + j, id + j);
+      }
+      return doc;
+    }
+  };
+
+  private static final int ARRAY_LENGTH = 10;
+  private static final int WIDE_FIELDS = 50;
+
+  /**
+   * Creates a document of this shape whose {@code _id} is the given value.
+   */
+  public abstract Document create(int id);
+
+  public String getCollectionName() {
+    return name().toLowerCase(Locale.US);
+  }
+}
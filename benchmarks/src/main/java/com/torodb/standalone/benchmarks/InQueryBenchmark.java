@@ -0,0 +1,96 @@
+/*
+ * ToroDB Server
+ * Copyright © 2014 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.standalone.benchmarks;
+
+import static com.mongodb.client.model.Filters.in;
+
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code find} with {@code $in} predicates on {@code _id} for lists of different sizes.
+ *
+ * <p>The requested ids are distinct and all of them exist, so each query returns {@link #inSize}
+ * documents. The cost per requested id should stay flat as the list grows. A growing cost per id
+ * points to SQL generation or parsing that depends on the length of the list.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InQueryBenchmark {
+
+  @Param({"10000"})
+  public int preloadedDocs;
+
+  @Param({"1000"})
+  public int batchSize;
+
+  @Param({"10", "100", "1000", "5000"})
+  public int inSize;
+
+  private MongoCollection<Document> collection;
+  private List<Integer> ids;
+
+  @Setup(Level.Trial)
+  public void loadCollection(ServerState serverState) {
+    collection = BenchmarkCollections.createAndLoad(serverState, DocumentShape.FLAT,
+        preloadedDocs, batchSize);
+  }
+
+  @Setup(Level.Iteration)
+  public void chooseIds() {
+    if (inSize > preloadedDocs) {
+      throw new IllegalArgumentException("inSize (" + inSize + ") must not be higher than "
+          + "preloadedDocs (" + preloadedDocs + ")");
+    }
+    List<Integer> allIds = new ArrayList<>(preloadedDocs);
+    for (int id = 0; id < preloadedDocs; id++) {
+      allIds.add(id);
+    }
+    Collections.shuffle(allIds, ThreadLocalRandom.current());
+    ids = new ArrayList<>(allIds.subList(0, inSize));
+  }
+
+  @Benchmark
+  public List<Document> findIn() {
+    return collection.find(in("_id", ids))
+        .into(new ArrayList<>(inSize));
+  }
+
+}
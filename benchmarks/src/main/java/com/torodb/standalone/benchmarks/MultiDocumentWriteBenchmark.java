@@ -0,0 +1,146 @@
+/*
+ * ToroDB Server
+ * Copyright © 2014 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.standalone.benchmarks;
+
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.inc;
+import static com.mongodb.client.model.Updates.set;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures {@code updateMany} and {@code deleteMany} with simple operators, whose cost should grow
+ * with the number of affected documents much slower than one round trip per document.
+ *
+ * <p>Updates modify the preloaded {@link DocumentShape#FLAT} documents whose {@code active} field
+ * is true (half of {@link UpdateState#preloadedDocs}). Deletes remove a group of
+ * {@link DeleteState#affectedDocs} documents inserted before each invocation. Each kind of
+ * benchmark uses its own state, so it is only parameterized by what drives its cost.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MultiDocumentWriteBenchmark {
+
+  @Benchmark
+  public UpdateResult updateManySet(UpdateState state) {
+    return state.collection.updateMany(eq("active", true),
+        set("score", ThreadLocalRandom.current().nextDouble()));
+  }
+
+  @Benchmark
+  public UpdateResult updateManyIncAndSet(UpdateState state) {
+    return state.collection.updateMany(eq("active", true),
+        combine(inc("i", 1), set("name", "updated")));
+  }
+
+  @Benchmark
+  public DeleteResult deleteMany(DeleteState state, PendingGroup pendingGroup) {
+    return state.collection.deleteMany(eq("group", pendingGroup.group));
+  }
+
+  /**
+   * The collection updated by the {@code updateMany} benchmarks.
+   */
+  @State(Scope.Benchmark)
+  public static class UpdateState {
+
+    @Param({"200", "2000"})
+    public int preloadedDocs;
+
+    @Param({"1000"})
+    public int batchSize;
+
+    MongoCollection<Document> collection;
+
+    @Setup(Level.Trial)
+    public void loadCollection(ServerState serverState) {
+      collection = BenchmarkCollections.createAndLoad(serverState, DocumentShape.FLAT,
+          preloadedDocs, batchSize);
+    }
+  }
+
+  /**
+   * The collection the {@link #deleteMany(DeleteState, PendingGroup)} benchmark deletes from.
+   */
+  @State(Scope.Benchmark)
+  public static class DeleteState {
+
+    @Param({"100", "1000"})
+    public int affectedDocs;
+
+    MongoCollection<Document> collection;
+    AtomicInteger nextId;
+    AtomicInteger nextGroup;
+
+    @Setup(Level.Trial)
+    public void createCollection(ServerState serverState) {
+      collection = BenchmarkCollections.createAndLoad(serverState, DocumentShape.FLAT, 0,
+          affectedDocs);
+      nextId = new AtomicInteger();
+      nextGroup = new AtomicInteger();
+    }
+  }
+
+  /**
+   * Inserts, before each invocation, the group of documents the
+   * {@link #deleteMany(DeleteState, PendingGroup)} benchmark will remove.
+   */
+  @State(Scope.Thread)
+  public static class PendingGroup {
+
+    int group;
+
+    @Setup(Level.Invocation)
+    public void insertGroup(DeleteState state) {
+      group = state.nextGroup.getAndIncrement();
+
+      List<Document> docs = new ArrayList<>(state.affectedDocs);
+      for (int i = 0; i < state.affectedDocs; i++) {
+        docs.add(DocumentShape.FLAT.create(state.nextId.getAndIncrement())
+            .append("group", group));
+      }
+      state.collection.insertMany(docs);
+    }
+  }
+
+}
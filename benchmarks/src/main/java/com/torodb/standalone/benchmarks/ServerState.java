@@ -0,0 +1,116 @@
+/*
+ * ToroDB Server
+ * Copyright © 2014 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.standalone.benchmarks;
+
+import com.google.common.net.HostAndPort;
+import com.mongodb.MongoClient;
+import com.torodb.core.backend.BackendBundle;
+import com.torodb.core.bundle.BundleConfig;
+import com.torodb.core.exceptions.SystemException;
+import com.torodb.core.logging.ComponentLoggerFactory;
+import com.torodb.packaging.config.model.generic.Generic;
+import com.torodb.packaging.config.util.BundleFactory;
+import com.torodb.packaging.config.util.ConfigUtils;
+import com.torodb.standalone.config.model.backend.Backend;
+import com.torodb.standalone.config.model.backend.derby.Derby;
+import com.torodb.standalone.config.model.backend.postgres.Postgres;
+import com.torodb.standalone.utils.RequireClientSupplier.BackendType;
+import com.torodb.standalone.utils.ServerTestInstance;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.function.Function;
+
+/**
+ * A JMH state that starts a ToroDB Server once per trial and supplies a {@link MongoClient}
+ * connected to it.
+ *
+ * <p>By default the server uses an embedded in-memory Derby backend, so no external database is
+ * needed. Use {@code -p backend=POSTGRES} to run against a local PostgreSQL configured with the
+ * same defaults as the server (password read from {@code ~/.toropass}).
+ */
+@State(Scope.Benchmark)
+public class ServerState {
+
+  private static final Logger LOGGER = new ComponentLoggerFactory("BENCHMARK")
+      .apply(ServerState.class);
+
+  @Param({"DERBY"})
+  public BackendType backend;
+
+  private ServerTestInstance serverInstance;
+  private MongoClient client;
+
+  @Setup(Level.Trial)
+  public void startServer() {
+    serverInstance = new ServerTestInstance(createBackendBundleGenerator(backend));
+    serverInstance.startAsync();
+    serverInstance.awaitRunning();
+
+    HostAndPort address = serverInstance.getAddress();
+    client = new MongoClient(address.getHost(), address.getPort());
+  }
+
+  @TearDown(Level.Trial)
+  public void stopServer() {
+    if (client != null) {
+      client.close();
+    }
+    if (serverInstance != null) {
+      serverInstance.stopAsync();
+      serverInstance.awaitTerminated();
+    }
+  }
+
+  public MongoClient getClient() {
+    return client;
+  }
+
+  private static Function<BundleConfig, BackendBundle> createBackendBundleGenerator(
+      BackendType backendType) {
+    Backend backendConfig;
+    switch (backendType) {
+      case DERBY: {
+        backendConfig = new Backend(new Derby());
+        break;
+      }
+      case POSTGRES: {
+        Postgres postgres = new Postgres();
+        try {
+          ConfigUtils.parseToropassFile(postgres, LOGGER);
+        } catch (Exception ex) {
+          throw new SystemException(ex);
+        }
+        backendConfig = new Backend(postgres);
+        break;
+      }
+      default: {
+        throw new AssertionError("Unexpected backend type " + backendType);
+      }
+    }
+    backendConfig.setConnectionPoolConfig(new Generic());
+
+    return bundleConfig -> BundleFactory.createBackendBundle(backendConfig, bundleConfig);
+  }
+
+}
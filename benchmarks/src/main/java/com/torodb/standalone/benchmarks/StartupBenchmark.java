@@ -0,0 +1,104 @@
+/*
+ * ToroDB Server
+ * Copyright © 2014 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.standalone.benchmarks;
+
+import com.beust.jcommander.JCommander;
+import com.google.common.util.concurrent.Service;
+import com.torodb.standalone.CliConfig;
+import com.torodb.standalone.CliConfigUtils;
+import com.torodb.standalone.Main;
+import com.torodb.standalone.config.model.Config;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.PropertyResourceBundle;
+import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time ToroDB Server needs, on a fresh JVM, from command line parsing until it
+ * accepts connections.
+ *
+ * <p>It follows the same steps as {@link Main#main(String[])}: CLI parsing, configuration mapping
+ * and validation, logger configuration, toropass file parsing, injector creation and bundle
+ * startup, using an embedded in-memory Derby backend. The interactive password prompt and the
+ * replication mongopass parsing are skipped, as they are not used with this configuration. Each
+ * measurement runs on its own fork, so no class is loaded or initialized beforehand.
+ *
+ * <p>The archive created by the {@code appcds} launch script does not match the classpath of
+ * {@code benchmarks.jar}, so to evaluate AppCDS the benchmark needs its own archive, for example
+ * {@code -jvmArgsAppend "-XX:+AutoCreateSharedArchive -XX:SharedArchiveFile=benchmarks.jsa"}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+  private int port;
+  private Service server;
+
+  @Setup(Level.Trial)
+  public void choosePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void stopServer() {
+    if (server != null) {
+      server.stopAsync();
+      server.awaitTerminated();
+    }
+  }
+
+  @Benchmark
+  public void timeToListening() throws Exception {
+    ResourceBundle cliBundle = PropertyResourceBundle.getBundle("CliMessages");
+    CliConfig cliConfig = new CliConfig();
+    new JCommander(cliConfig, cliBundle,
+        "--backend", "derby",
+        "--param", "/protocol/mongo/net/port=" + port
+    );
+    Config config = CliConfigUtils.readConfig(cliConfig);
+    Main.configure(cliConfig, config);
+
+    server = Main.createServerService(config);
+    server.startAsync();
+    server.awaitRunning();
+
+    new Socket("localhost", port).close();
+  }
+
+}
@@ -72,8 +72,12 @@ public class CliConfigUtils {
       }
 
       if (inputStream != null) {
-        Config config = mapper.readValue(inputStream, Config.class);
-        configNode = mapper.valueToTree(config);
+        try {
+          Config config = mapper.readValue(inputStream, Config.class);
+          configNode = mapper.valueToTree(config);
+        } finally {
+          inputStream.close();
+        }
       }
     }
 
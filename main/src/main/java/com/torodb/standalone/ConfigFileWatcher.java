@@ -0,0 +1,246 @@
+/*
+ * ToroDB Server
+ * Copyright © 2014 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.standalone;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.AbstractExecutionThreadService;
+import com.torodb.core.logging.LoggerFactory;
+import com.torodb.packaging.config.model.generic.Generic;
+import com.torodb.packaging.config.util.ConfigUtils;
+import com.torodb.packaging.util.Log4jUtils;
+import com.torodb.standalone.config.model.Config;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the configuration file specified with {@code --conf} and applies the settings that can
+ * be changed while ToroDB Server is running.
+ *
+ * <p>The file is read again on any change in its directory, not only on events that carry its
+ * name, so replacements done through symbolic links (like Kubernetes ConfigMap updates, which
+ * swap a {@code ..data} link) are detected too. Each time it is read, it is validated like it is
+ * on startup. An invalid file
+ * is reported and ignored. The log level and the log levels of packages are applied live; changes
+ * on any other setting, and removals of log levels, are logged and will only take effect after a
+ * restart.
+ */
+public class ConfigFileWatcher extends AbstractExecutionThreadService {
+
+  private static final List<String> LIVE_PROPERTIES = ImmutableList.of(
+      "/generic/logLevel",
+      "/generic/logPackages"
+  );
+  private static final long POLL_MILLIS = 1000;
+
+  private final CliConfig cliConfig;
+  private final Path confFile;
+  private final ObjectMapper objectMapper;
+  private final Logger logger;
+  private Config currentConfig;
+  private List<String> lastAppliedProperties = ImmutableList.of();
+  private List<String> lastRestartProperties = ImmutableList.of();
+  private WatchService watchService;
+
+  public ConfigFileWatcher(CliConfig cliConfig, Config config, LoggerFactory loggerFactory) {
+    this.cliConfig = cliConfig;
+    this.confFile = Paths.get(cliConfig.getConfFile()).toAbsolutePath();
+    this.objectMapper = ConfigUtils.mapper(true);
+    this.logger = loggerFactory.apply(ConfigFileWatcher.class);
+    this.currentConfig = config;
+  }
+
+  @Override
+  protected void startUp() throws Exception {
+    watchService = FileSystems.getDefault().newWatchService();
+    confFile.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+    logger.info("Watching configuration file {} for changes", confFile);
+  }
+
+  @Override
+  protected void run() throws Exception {
+    while (isRunning()) {
+      WatchKey key = watchService.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+      if (key == null) {
+        continue;
+      }
+      boolean dirChanged = false;
+      for (WatchEvent<?> event : key.pollEvents()) {
+        if (event.kind() != OVERFLOW) {
+          dirChanged = true;
+        }
+      }
+      boolean valid = key.reset();
+
+      if (dirChanged) {
+        try {
+          reload();
+        } catch (RuntimeException ex) {
+          logger.error("Error while applying changes on configuration file " + confFile, ex);
+        }
+      }
+      if (!valid) {
+        logger.warn("Directory {} can not be watched anymore. Changes on configuration file {} "
+            + "will not be applied until restart", confFile.getParent(), confFile);
+        return;
+      }
+    }
+  }
+
+  @Override
+  protected void shutDown() throws Exception {
+    if (watchService != null) {
+      watchService.close();
+    }
+  }
+
+  @Override
+  protected String serviceName() {
+    return "config-file-watcher";
+  }
+
+  /**
+   * Reads the configuration file and applies the changes that can be applied live.
+   *
+   * @return false if the file was not a valid configuration and has been ignored
+   */
+  boolean reload() {
+    Config newConfig;
+    try {
+      newConfig = CliConfigUtils.readConfig(cliConfig);
+    } catch (Exception ex) {
+      logger.warn("Ignoring changes on configuration file {}: {}", confFile, ex.getMessage());
+      return false;
+    }
+
+    Map<String, JsonNode> changes = collectChanges(objectMapper.valueToTree(currentConfig),
+        objectMapper.valueToTree(newConfig));
+
+    List<String> appliedProperties = new ArrayList<>();
+    List<String> restartProperties = new ArrayList<>();
+    for (Map.Entry<String, JsonNode> change : changes.entrySet()) {
+      if (isLiveProperty(change.getKey()) && !isRemoval(change.getValue())) {
+        appliedProperties.add(change.getKey());
+      } else {
+        restartProperties.add(change.getKey());
+      }
+    }
+
+    if (!appliedProperties.isEmpty()) {
+      applyLogLevels(newConfig.getGeneric());
+    }
+    if (!restartProperties.isEmpty()) {
+      logger.warn("Changes on {} will only be applied after a restart", restartProperties);
+    }
+
+    currentConfig = newConfig;
+    lastAppliedProperties = appliedProperties;
+    lastRestartProperties = restartProperties;
+    return true;
+  }
+
+  Config getCurrentConfig() {
+    return currentConfig;
+  }
+
+  /**
+   * Returns the properties whose changes have been applied live on the last accepted reload.
+   */
+  List<String> getLastAppliedProperties() {
+    return lastAppliedProperties;
+  }
+
+  /**
+   * Returns the properties whose changes require a restart on the last accepted reload.
+   */
+  List<String> getLastRestartProperties() {
+    return lastRestartProperties;
+  }
+
+  private void applyLogLevels(Generic generic) {
+    if (generic.getLogLevel() != null) {
+      Log4jUtils.setRootLevel(generic.getLogLevel());
+      logger.info("Applied /generic/logLevel={}", generic.getLogLevel());
+    }
+    if (generic.getLogPackages() != null) {
+      Log4jUtils.setLogPackages(generic.getLogPackages());
+      logger.info("Applied /generic/logPackages={}", generic.getLogPackages());
+    }
+  }
+
+  /**
+   * Returns true if changes on the given property can be applied without a restart.
+   */
+  static boolean isLiveProperty(String property) {
+    return LIVE_PROPERTIES.stream()
+        .anyMatch(liveProperty -> property.equals(liveProperty)
+            || property.startsWith(liveProperty + "/"));
+  }
+
+  /**
+   * Returns the paths of the leaf properties that differ between two configuration trees, mapped
+   * to their new value, which is null when the property has been removed.
+   */
+  static Map<String, JsonNode> collectChanges(JsonNode oldTree, JsonNode newTree) {
+    Map<String, JsonNode> changes = new LinkedHashMap<>();
+    collectChanges("", oldTree, newTree, changes);
+    return changes;
+  }
+
+  private static void collectChanges(String path, JsonNode oldNode, JsonNode newNode,
+      Map<String, JsonNode> changes) {
+    if (oldNode != null && newNode != null && oldNode.isObject() && newNode.isObject()) {
+      Set<String> fieldNames = new LinkedHashSet<>();
+      oldNode.fieldNames().forEachRemaining(fieldNames::add);
+      newNode.fieldNames().forEachRemaining(fieldNames::add);
+      for (String fieldName : fieldNames) {
+        collectChanges(path + "/" + fieldName, oldNode.get(fieldName), newNode.get(fieldName),
+            changes);
+      }
+    } else if (!Objects.equals(oldNode, newNode)) {
+      changes.put(path, newNode);
+    }
+  }
+
+  /**
+   * Log levels set on a previous reload cannot be reverted to the ones defined on log4j2.xml, so
+   * removing them from the file requires a restart.
+   */
+  private static boolean isRemoval(JsonNode newValue) {
+    return newValue == null || newValue.isNull();
+  }
+}
@@ -55,6 +55,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.time.Clock;
 import java.util.List;
+import java.util.Optional;
 import java.util.PropertyResourceBundle;
 import java.util.ResourceBundle;
 import java.util.stream.Collectors;
@@ -105,9 +106,7 @@ public class Main {
       System.exit(0);
     }
 
-    configureLogger(cliConfig, config);
-
-    parseToropassFile(config);
+    configure(cliConfig, config);
     
     if (config.getProtocol().getMongo().getReplication() != null) {
       List<AbstractShardReplication> shards;
@@ -186,7 +185,7 @@ public class Main {
       Service server;
       if (config.getProtocol().getMongo().getReplication() == null || config.getProtocol()
           .getMongo().getReplication().getShards().isEmpty()) {
-        Service toroDbServer = new ServerService(createServerConfig(config));
+        Service toroDbServer = createServerService(config);
 
         toroDbServer.startAsync();
         toroDbServer.awaitRunning();
@@ -196,7 +195,13 @@ public class Main {
         throw new UnsupportedOperationException("Replication not supported yet!");
       }
 
+      Optional<Service> configWatcher = startConfigWatcher(cliConfig, config);
+
       Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        configWatcher.ifPresent(watcher -> {
+          watcher.stopAsync();
+          watcher.awaitTerminated();
+        });
         server.stopAsync();
         server.awaitTerminated();
       }));
@@ -218,6 +223,23 @@ public class Main {
     }
   }
 
+  /**
+   * Applies the log configuration and reads the backend password from the toropass file, as it
+   * is done before the server is created.
+   */
+  public static void configure(CliConfig cliConfig, Config config) {
+    configureLogger(cliConfig, config);
+
+    parseToropassFile(config);
+  }
+
+  /**
+   * Creates the (not started) service that runs ToroDB Server with the given configuration.
+   */
+  public static Service createServerService(Config config) {
+    return new ServerService(createServerConfig(config));
+  }
+
   private static ServerConfig createServerConfig(Config config) {
     Clock clock = Clock.systemDefaultZone();
 
@@ -242,6 +264,22 @@ public class Main {
     );
   }
 
+  private static Optional<Service> startConfigWatcher(CliConfig cliConfig, Config config) {
+    if (!cliConfig.hasConfFile()) {
+      return Optional.empty();
+    }
+    try {
+      Service configWatcher = new ConfigFileWatcher(cliConfig, config, LOGGER_FACTORY);
+      configWatcher.startAsync();
+      configWatcher.awaitRunning();
+      return Optional.of(configWatcher);
+    } catch (RuntimeException ex) {
+      LOGGER.warn("Configuration file " + cliConfig.getConfFile() + " can not be watched. "
+          + "Changes on it will not be applied until restart", ex);
+      return Optional.empty();
+    }
+  }
+
   private static HostAndPort getSelfHostAndPort(Config config) {
     Net net = config.getProtocol().getMongo().getNet();
     return HostAndPort.fromParts(net.getBindIp(), net.getPort());
@@ -0,0 +1,205 @@
+/*
+ * ToroDB Server
+ * Copyright © 2014 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.standalone;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.torodb.core.logging.ComponentLoggerFactory;
+import com.torodb.packaging.config.util.ConfigUtils;
+import com.torodb.standalone.config.model.Config;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class ConfigFileWatcherTest {
+
+  private final ObjectMapper objectMapper = ConfigUtils.mapper(true);
+
+  @Test
+  public void testLiveOnlyChange() throws Exception {
+    Map<String, JsonNode> changes = collectChanges(
+        readConfig("/generic/logLevel=INFO"),
+        readConfig("/generic/logLevel=DEBUG"));
+
+    Assert.assertEquals("Unexpected changes " + changes, 1, changes.size());
+    Assert.assertTrue("/generic/logLevel change not found",
+        changes.containsKey("/generic/logLevel"));
+    Assert.assertTrue("/generic/logLevel must be live",
+        ConfigFileWatcher.isLiveProperty("/generic/logLevel"));
+  }
+
+  @Test
+  public void testRestartOnlyChange() throws Exception {
+    Map<String, JsonNode> changes = collectChanges(
+        readConfig("/protocol/mongo/net/port=27018"),
+        readConfig("/protocol/mongo/net/port=27019"));
+
+    Assert.assertEquals("Unexpected changes " + changes, 1, changes.size());
+    Assert.assertTrue("/protocol/mongo/net/port change not found",
+        changes.containsKey("/protocol/mongo/net/port"));
+    Assert.assertFalse("/protocol/mongo/net/port must not be live",
+        ConfigFileWatcher.isLiveProperty("/protocol/mongo/net/port"));
+  }
+
+  @Test
+  public void testLogPackagesNestedChange() throws Exception {
+    Map<String, JsonNode> changes = collectChanges(
+        readConfig("/generic/logPackages/com.torodb=INFO"),
+        readConfig("/generic/logPackages/com.torodb=DEBUG"));
+
+    Assert.assertEquals("Unexpected changes " + changes, 1, changes.size());
+    Assert.assertTrue("/generic/logPackages/com.torodb change not found",
+        changes.containsKey("/generic/logPackages/com.torodb"));
+    Assert.assertTrue("/generic/logPackages/com.torodb must be live",
+        ConfigFileWatcher.isLiveProperty("/generic/logPackages/com.torodb"));
+    Assert.assertFalse("/generic/logPackagesOther must not be live",
+        ConfigFileWatcher.isLiveProperty("/generic/logPackagesOther"));
+  }
+
+  @Test
+  public void testInvalidFileIsIgnored() throws Exception {
+    File confFile = File.createTempFile("torodb", ".yml");
+    confFile.deleteOnExit();
+
+    CliConfig cliConfig = new CliConfig() {
+      @Override
+      public String getConfFile() {
+        return confFile.getPath();
+      }
+
+      @Override
+      public boolean hasConfFile() {
+        return true;
+      }
+
+      @Override
+      public InputStream getConfInputStream() {
+        return ConfigFileWatcherTest.class.getResourceAsStream("/test-parse-with-wrong-yaml.yml");
+      }
+    };
+    Config config = CliConfigUtils.readConfig(new CliConfig());
+    ConfigFileWatcher watcher = new ConfigFileWatcher(cliConfig, config,
+        new ComponentLoggerFactory("SERVER"));
+
+    Assert.assertFalse("An invalid configuration file has been accepted", watcher.reload());
+    Assert.assertSame("The configuration changed after reading an invalid file", config,
+        watcher.getCurrentConfig());
+  }
+
+  @Test
+  public void testLiveChangeIsApplied() throws Exception {
+    File confFile = createConfFile(
+        "generic:",
+        "  logLevel: INFO");
+    CliConfig cliConfig = confFileCliConfig(confFile);
+    ConfigFileWatcher watcher = new ConfigFileWatcher(cliConfig,
+        CliConfigUtils.readConfig(cliConfig), new ComponentLoggerFactory("SERVER"));
+
+    writeConfFile(confFile,
+        "generic:",
+        "  logLevel: DEBUG");
+
+    Assert.assertTrue("A valid configuration file has been ignored", watcher.reload());
+    Assert.assertEquals("The new log level has not been read", "DEBUG",
+        watcher.getCurrentConfig().getGeneric().getLogLevel().toString());
+    Assert.assertEquals("Unexpected applied properties",
+        Arrays.asList("/generic/logLevel"), watcher.getLastAppliedProperties());
+    Assert.assertTrue("Unexpected restart properties " + watcher.getLastRestartProperties(),
+        watcher.getLastRestartProperties().isEmpty());
+  }
+
+  @Test
+  public void testLogLevelRemovalRequiresRestart() throws Exception {
+    File confFile = createConfFile(
+        "generic:",
+        "  logLevel: DEBUG",
+        "  logPackages:",
+        "    com.torodb: DEBUG");
+    CliConfig cliConfig = confFileCliConfig(confFile);
+    ConfigFileWatcher watcher = new ConfigFileWatcher(cliConfig,
+        CliConfigUtils.readConfig(cliConfig), new ComponentLoggerFactory("SERVER"));
+
+    writeConfFile(confFile,
+        "generic:",
+        "  logLevel: null",
+        "  logPackages:",
+        "    com.other: INFO");
+
+    Assert.assertTrue("A valid configuration file has been ignored", watcher.reload());
+    List<String> restartProperties = watcher.getLastRestartProperties();
+    Assert.assertTrue("/generic/logLevel removal must require a restart",
+        restartProperties.contains("/generic/logLevel"));
+    Assert.assertTrue("/generic/logPackages/com.torodb removal must require a restart",
+        restartProperties.contains("/generic/logPackages/com.torodb"));
+    Assert.assertEquals("Only the new package log level must be applied",
+        Arrays.asList("/generic/logPackages/com.other"), watcher.getLastAppliedProperties());
+  }
+
+  private Map<String, JsonNode> collectChanges(Config oldConfig, Config newConfig) {
+    return ConfigFileWatcher.collectChanges(objectMapper.valueToTree(oldConfig),
+        objectMapper.valueToTree(newConfig));
+  }
+
+  private static File createConfFile(String... lines) throws Exception {
+    File confFile = File.createTempFile("torodb", ".yml");
+    confFile.deleteOnExit();
+    writeConfFile(confFile, lines);
+    return confFile;
+  }
+
+  private static void writeConfFile(File confFile, String... lines) throws Exception {
+    Files.write(confFile.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+  }
+
+  private static CliConfig confFileCliConfig(File confFile) {
+    return new CliConfig() {
+      @Override
+      public String getConfFile() {
+        return confFile.getPath();
+      }
+
+      @Override
+      public boolean hasConfFile() {
+        return true;
+      }
+
+      @Override
+      public InputStream getConfInputStream() throws Exception {
+        return new FileInputStream(confFile);
+      }
+    };
+  }
+
+  private static Config readConfig(String... params) throws Exception {
+    CliConfig cliConfig = new CliConfig() {
+      @Override
+      public List<String> getParams() {
+        return Arrays.asList(params);
+      }
+    };
+    return CliConfigUtils.readConfig(cliConfig);
+  }
+}
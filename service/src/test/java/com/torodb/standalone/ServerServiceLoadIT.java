@@ -0,0 +1,164 @@
+/*
+ * ToroDB Server
+ * Copyright © 2014 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.standalone;
+
+import static com.mongodb.client.model.Filters.eq;
+import static com.torodb.standalone.utils.RequireClientSupplier.BackendType.POSTGRES;
+
+import com.mongodb.MongoClient;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoCollection;
+import com.torodb.standalone.utils.ClientSupplier;
+import com.torodb.standalone.utils.LoadTestSettings;
+import com.torodb.standalone.utils.RequireClientSupplier;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives several concurrent clients against a ToroDB Server for a fixed time and checks latency
+ * percentiles and throughput against the thresholds stored on {@link LoadTestSettings}.
+ *
+ * <p>Each worker uses its own {@link MongoClient}, so connections are not shared between them.
+ * Operations executed during the warm-up period are not taken into account.
+ */
+@RunWith(JUnitPlatform.class)
+@RequireClientSupplier(backend = POSTGRES, newForEachCase = false)
+public class ServerServiceLoadIT {
+
+  private static final int SIGNIFICANT_DIGITS = 3;
+
+  @Test
+  public void mixedReadsAndInserts(ClientSupplier clientSupplier) throws Exception {
+    LoadTestSettings settings = LoadTestSettings.load();
+    MongoClient client = clientSupplier.get();
+    MongoCollection<Document> collection = client.getDatabase("dbLoadTest")
+        .getCollection("colMixed");
+    collection.drop();
+
+    List<Document> preloaded = new ArrayList<>(settings.getPreloadedDocs());
+    for (int i = 0; i < settings.getPreloadedDocs(); i++) {
+      preloaded.add(new Document("_id", i).append("i", i));
+    }
+    collection.insertMany(preloaded);
+
+    Recorder readRecorder = new Recorder(SIGNIFICANT_DIGITS);
+    Recorder writeRecorder = new Recorder(SIGNIFICANT_DIGITS);
+    AtomicInteger nextId = new AtomicInteger(settings.getPreloadedDocs());
+
+    ServerAddress address = client.getAddress();
+    List<MongoClient> workerClients = new ArrayList<>(settings.getWorkers());
+    ExecutorService executor = Executors.newFixedThreadPool(settings.getWorkers());
+    long measureStart;
+    long measureEnd;
+    try {
+      long warmupEnd = System.nanoTime()
+          + TimeUnit.SECONDS.toNanos(settings.getWarmupSeconds());
+      long deadline = warmupEnd + TimeUnit.SECONDS.toNanos(settings.getDurationSeconds());
+
+      List<Future<Void>> workers = new ArrayList<>(settings.getWorkers());
+      for (int i = 0; i < settings.getWorkers(); i++) {
+        MongoClient workerClient = new MongoClient(address);
+        workerClients.add(workerClient);
+        MongoCollection<Document> workerCollection = workerClient.getDatabase("dbLoadTest")
+            .getCollection("colMixed");
+        workers.add(executor.submit(createWorker(workerCollection, settings, deadline, nextId,
+            readRecorder, writeRecorder)));
+      }
+
+      TimeUnit.NANOSECONDS.sleep(warmupEnd - System.nanoTime());
+      //discard the values recorded during the warm-up
+      readRecorder.getIntervalHistogram();
+      writeRecorder.getIntervalHistogram();
+      measureStart = System.nanoTime();
+
+      for (Future<Void> worker : workers) {
+        worker.get();
+      }
+      measureEnd = System.nanoTime();
+    } finally {
+      executor.shutdownNow();
+      workerClients.forEach(MongoClient::close);
+    }
+    double elapsedSeconds = (measureEnd - measureStart) / (double) TimeUnit.SECONDS.toNanos(1);
+
+    Histogram reads = readRecorder.getIntervalHistogram();
+    Histogram writes = writeRecorder.getIntervalHistogram();
+    double throughput = (reads.getTotalCount() + writes.getTotalCount()) / elapsedSeconds;
+
+    Assertions.assertAll(
+        () -> Assertions.assertTrue(
+            reads.getTotalCount() == 0
+                || reads.getValueAtPercentile(99) <= settings.getReadP99MaxMicros(),
+            () -> "Read p99 latency is " + reads.getValueAtPercentile(99) + "us, but the "
+                + "maximum accepted is " + settings.getReadP99MaxMicros() + "us"),
+        () -> Assertions.assertTrue(
+            writes.getTotalCount() == 0
+                || writes.getValueAtPercentile(99) <= settings.getWriteP99MaxMicros(),
+            () -> "Write p99 latency is " + writes.getValueAtPercentile(99) + "us, but the "
+                + "maximum accepted is " + settings.getWriteP99MaxMicros() + "us"),
+        () -> Assertions.assertTrue(
+            throughput >= settings.getMinThroughput(),
+            () -> "Throughput is " + throughput + " ops/s, but the minimum accepted is "
+                + settings.getMinThroughput() + " ops/s")
+    );
+  }
+
+  private static Callable<Void> createWorker(MongoCollection<Document> collection,
+      LoadTestSettings settings, long deadline, AtomicInteger nextId,
+      Recorder readRecorder, Recorder writeRecorder) {
+    double readRatio = settings.getReadRatio();
+    int preloadedDocs = settings.getPreloadedDocs();
+    return () -> {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      while (System.nanoTime() < deadline) {
+        long opStart = System.nanoTime();
+        if (random.nextDouble() < readRatio) {
+          int id = random.nextInt(preloadedDocs);
+          Assertions.assertNotNull(collection.find(eq("_id", id)).first(),
+              "Document " + id + " has not been found");
+          readRecorder.recordValue(toMicros(System.nanoTime() - opStart));
+        } else {
+          int id = nextId.getAndIncrement();
+          collection.insertOne(new Document("_id", id).append("i", id));
+          writeRecorder.recordValue(toMicros(System.nanoTime() - opStart));
+        }
+      }
+      return null;
+    };
+  }
+
+  private static long toMicros(long nanos) {
+    return TimeUnit.NANOSECONDS.toMicros(nanos);
+  }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * ToroDB Server
+ * Copyright © 2014 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.standalone.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+/**
+ * The settings and thresholds used by load tests.
+ *
+ * <p>Values are read from the {@value #RESOURCE} classpath resource and can be overridden by
+ * system properties prefixed with {@value #SYSTEM_PROPERTY_PREFIX}.
+ */
+public class LoadTestSettings {
+
+  private static final String RESOURCE = "/load-test.properties";
+  private static final String SYSTEM_PROPERTY_PREFIX = "torodb.loadTest.";
+
+  private final Properties properties;
+
+  private LoadTestSettings(Properties properties) {
+    this.properties = properties;
+  }
+
+  public static LoadTestSettings load() {
+    Properties properties = new Properties();
+    try (InputStream is = LoadTestSettings.class.getResourceAsStream(RESOURCE)) {
+      if (is == null) {
+        throw new IllegalStateException("Resource " + RESOURCE + " not found");
+      }
+      properties.load(is);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return new LoadTestSettings(properties);
+  }
+
+  public int getWorkers() {
+    return Integer.parseInt(get("workers"));
+  }
+
+  public int getWarmupSeconds() {
+    return Integer.parseInt(get("warmupSeconds"));
+  }
+
+  public int getDurationSeconds() {
+    return Integer.parseInt(get("durationSeconds"));
+  }
+
+  public double getReadRatio() {
+    return Double.parseDouble(get("readRatio"));
+  }
+
+  public int getPreloadedDocs() {
+    return Integer.parseInt(get("preloadedDocs"));
+  }
+
+  public long getReadP99MaxMicros() {
+    return Long.parseLong(get("read.p99.maxMicros"));
+  }
+
+  public long getWriteP99MaxMicros() {
+    return Long.parseLong(get("write.p99.maxMicros"));
+  }
+
+  public double getMinThroughput() {
+    return Double.parseDouble(get("minThroughput"));
+  }
+
+  private String get(String key) {
+    String value = System.getProperty(SYSTEM_PROPERTY_PREFIX + key, properties.getProperty(key));
+    if (value == null) {
+      throw new IllegalStateException("Load test setting " + key + " is not defined");
+    }
+    return value.trim();
+  }
+
+}